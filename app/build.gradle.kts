@@ -45,6 +45,8 @@ dependencies {
     implementation(libs.navigation.ui)
     implementation(files("/home/ubuntu/Downloads/SDK_ReleaseforAndroid-master/SDK Release/platform_sdk_v4.1.0326/platform_sdk_v4.1.0326.jar"))
     testImplementation(libs.junit)
+    // Real org.json for JVM unit tests; android.jar only ships stubs
+    testImplementation(libs.json)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
     implementation(libs.okhttp)
@@ -0,0 +1,25 @@
+package com.example.fabricatorscanner.data;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Backend base URL and the one HTTP client shared by every screen, so calls
+ * reuse the same connection pool and dispatcher.
+ */
+public final class Api {
+
+    public static final String BASE_URL = "https://api.hexagonasia.com/newcommon/fabricator";
+//    public static final String BASE_URL = "http://192.168.1.22:5000/newcommon/fabricator";
+
+    private static OkHttpClient client;
+
+    private Api() {
+    }
+
+    public static synchronized OkHttpClient client() {
+        if (client == null) {
+            client = new OkHttpClient();
+        }
+        return client;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.fabricatorscanner.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Backend details for a single mattress code (size, order, description).
+ */
+public class MattressDetail {
+
+    private final String code;
+    private final String size;
+    private final String orderNo;
+    private final String description;
+
+    public MattressDetail(String code, String size, String orderNo, String description) {
+        this.code = code;
+        this.size = size;
+        this.orderNo = orderNo;
+        this.description = description;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getSize() {
+        return size;
+    }
+
+    public String getOrderNo() {
+        return orderNo;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Placeholder cached for codes the backend does not know, so they are not re-requested.
+     */
+    public static MattressDetail notFound(String code) {
+        return new MattressDetail(code, "", "", "");
+    }
+
+    public boolean isEmpty() {
+        return size.isEmpty() && orderNo.isEmpty() && description.isEmpty();
+    }
+
+    // One-line text shown under the mattress code in the list
+    @NonNull
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder();
+        if (!size.isEmpty()) sb.append("Size: ").append(size);
+        if (!orderNo.isEmpty()) {
+            if (sb.length() > 0) sb.append("  •  ");
+            sb.append("Order: ").append(orderNo);
+        }
+        if (sb.length() == 0 && !description.isEmpty()) sb.append(description);
+        return sb.toString();
+    }
+
+    public JSONObject toJson() throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("mattress", code);
+        json.put("size", size);
+        json.put("orderNo", orderNo);
+        json.put("description", description);
+        return json;
+    }
+
+    /**
+     * Parses a backend/disk entry. Returns null when the entry has no mattress code.
+     */
+    @Nullable
+    public static MattressDetail fromJson(JSONObject json) {
+        String code = json.optString("mattress", "").trim();
+        if (code.isEmpty()) return null;
+        return new MattressDetail(
+                code,
+                json.optString("size", "").trim(),
+                json.optString("orderNo", "").trim(),
+                json.optString("description", "").trim()
+        );
+    }
+}
@@ -0,0 +1,411 @@
+package com.example.fabricatorscanner.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Looks up mattress details without ever blocking the caller.
+ *
+ * Lookups go memory (LRU) -> disk (TTL) -> network. Requests are debounced
+ * until scanning pauses for {@link #DEBOUNCE_MS} (or {@link #MAX_WAIT_MS} has
+ * passed), only one batch is on the wire at a time, and codes that arrive while
+ * a batch or pallet prefetch is outstanding are held and sent together once it
+ * completes. All cache and batching state is owned by a single worker thread;
+ * results are delivered on the main thread.
+ */
+public class MattressDetailRepository {
+
+    // Callback for details that became available
+    public interface OnDetailsLoadedListener {
+        void onDetailsLoaded(Map<String, MattressDetail> details);
+    }
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private static final long DEBOUNCE_MS = 500;
+    private static final long MAX_WAIT_MS = 3000;
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int MEMORY_CACHE_SIZE = 500;
+    private static final long DETAIL_TTL_MS = TimeUnit.HOURS.toMillis(12);
+    private static final long NOT_FOUND_TTL_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long RETRY_BASE_MS = 2000;
+    private static final long RETRY_MAX_MS = 60000;
+    private static final int MAX_RETRIES = 5;
+    private static final String DISK_DIR = "mattress_details";
+
+    private static MattressDetailRepository instance;
+
+    private final LruCache<String, CacheEntry> memoryCache = new LruCache<>(MEMORY_CACHE_SIZE);
+    private final File diskDir;
+    private final OkHttpClient client = Api.client();
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Worker-thread state
+    private final Set<String> pending = new LinkedHashSet<>();
+    private final Set<String> inFlight = new HashSet<>();
+    private ScheduledFuture<?> flushTask;
+    private long firstPendingAt;
+    private boolean batchInFlight = false;
+    private int prefetchesInFlight = 0;
+    private int failureCount = 0;
+    private long retryNotBefore = 0;
+    private String prefetchedFabricator;
+    private long prefetchedAt;
+
+    private volatile OnDetailsLoadedListener listener;
+
+    private static class CacheEntry {
+        final MattressDetail detail;
+        final long cachedAt;
+
+        CacheEntry(MattressDetail detail, long cachedAt) {
+            this.detail = detail;
+            this.cachedAt = cachedAt;
+        }
+    }
+
+    public static synchronized MattressDetailRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new MattressDetailRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private MattressDetailRepository(Context context) {
+        diskDir = new File(context.getCacheDir(), DISK_DIR);
+        worker.execute(this::pruneDiskCache);
+    }
+
+    public void setListener(@Nullable OnDetailsLoadedListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Memory-only lookup, safe to call from onBindViewHolder. Codes the backend
+     * does not know come back as an empty detail rather than null.
+     */
+    @Nullable
+    public MattressDetail peek(String code) {
+        CacheEntry entry = memoryCache.get(code);
+        if (entry == null) return null;
+        if (System.currentTimeMillis() - entry.cachedAt > ttl(entry.detail)) {
+            memoryCache.remove(code);
+            return null;
+        }
+        return entry.detail;
+    }
+
+    /**
+     * Queues a lookup. The listener is called once the detail is available.
+     */
+    public void request(String code) {
+        if (code == null || code.isEmpty() || peek(code) != null) return;
+        worker.execute(() -> {
+            if (inFlight.contains(code) || pending.contains(code)) return;
+            long now = System.currentTimeMillis();
+            if (pending.isEmpty()) firstPendingAt = now;
+            pending.add(code);
+            // Trailing debounce, capped so a continuous stream still gets sent
+            scheduleFlush(Math.max(0, Math.min(DEBOUNCE_MS, firstPendingAt + MAX_WAIT_MS - now)));
+        });
+    }
+
+    /**
+     * Warms the caches with the mattresses expected on this fabricator's pallet.
+     * Pending lookups are held until it completes, then only the misses are sent.
+     */
+    public void prefetchForFabricator(String fabricator) {
+        if (fabricator == null || fabricator.isEmpty()) return;
+        worker.execute(() -> {
+            long now = System.currentTimeMillis();
+            if (fabricator.equals(prefetchedFabricator) && now - prefetchedAt < DETAIL_TTL_MS) return;
+
+            HttpUrl url = HttpUrl.parse(Api.BASE_URL + "/pallet");
+            if (url == null) return;
+            url = url.newBuilder().addQueryParameter("fabricator", fabricator).build();
+
+            prefetchedFabricator = fabricator;
+            prefetchedAt = now;
+            prefetchesInFlight++;
+
+            Request request = new Request.Builder().url(url).get().build();
+            client.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                    worker.execute(() -> onPrefetchComplete(null));
+                }
+
+                @Override
+                public void onResponse(@NonNull Call call, @NonNull Response response) {
+                    List<MattressDetail> details = parseResponse(response);
+                    worker.execute(() -> onPrefetchComplete(details));
+                }
+            });
+        });
+    }
+
+    private void onPrefetchComplete(@Nullable List<MattressDetail> details) {
+        prefetchesInFlight--;
+        if (details != null) {
+            store(details, Collections.emptyList());
+        } else {
+            // Allow a retry on the next fabricator scan
+            prefetchedFabricator = null;
+        }
+        flush();
+    }
+
+    private void scheduleFlush(long delayMs) {
+        if (flushTask != null) flushTask.cancel(false);
+        flushTask = worker.schedule(this::flush, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Runs on the worker thread; sends at most one batch at a time
+    private void flush() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        // Held codes are flushed again when the outstanding call completes
+        if (pending.isEmpty() || batchInFlight || prefetchesInFlight > 0) return;
+
+        long wait = retryNotBefore - System.currentTimeMillis();
+        if (wait > 0) {
+            scheduleFlush(wait);
+            return;
+        }
+
+        Map<String, MattressDetail> resolved = new HashMap<>();
+        Iterator<String> it = pending.iterator();
+        while (it.hasNext()) {
+            String code = it.next();
+            MattressDetail detail = peek(code);
+            if (detail == null) {
+                // Keep the file's age so the TTL is not restarted by promoting it to memory
+                CacheEntry entry = readFromDisk(code);
+                if (entry != null) {
+                    memoryCache.put(code, entry);
+                    detail = entry.detail;
+                }
+            }
+            if (detail != null) {
+                if (!detail.isEmpty()) resolved.put(code, detail);
+                it.remove();
+            }
+        }
+        deliver(resolved);
+        if (pending.isEmpty()) return;
+
+        // Anything over the batch size stays pending for the next round
+        List<String> batch = new ArrayList<>();
+        it = pending.iterator();
+        while (it.hasNext() && batch.size() < MAX_BATCH_SIZE) {
+            batch.add(it.next());
+            it.remove();
+        }
+        firstPendingAt = System.currentTimeMillis();
+        fetchBatch(batch);
+    }
+
+    private void fetchBatch(List<String> batch) {
+        RequestBody body;
+        try {
+            JSONObject json = new JSONObject();
+            json.put("mattresses", new JSONArray(batch));
+            body = RequestBody.create(json.toString(), JSON);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return;
+        }
+
+        batchInFlight = true;
+        inFlight.addAll(batch);
+
+        Request request = new Request.Builder().url(Api.BASE_URL + "/mattresses/details").post(body).build();
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                worker.execute(() -> onBatchComplete(batch, null));
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                if (response.code() >= 500) {
+                    response.close();
+                    worker.execute(() -> onBatchComplete(batch, null));
+                    return;
+                }
+                // A 4xx or unreadable body will not improve on retry, so the batch is cached as not found
+                List<MattressDetail> details = parseResponse(response);
+                worker.execute(() -> onBatchComplete(batch,
+                        details != null ? details : Collections.emptyList()));
+            }
+        });
+    }
+
+    private void onBatchComplete(List<String> batch, @Nullable List<MattressDetail> details) {
+        batchInFlight = false;
+        inFlight.clear();
+
+        if (details != null) {
+            failureCount = 0;
+            retryNotBefore = 0;
+            store(details, batch);
+        } else if (++failureCount <= MAX_RETRIES) {
+            // Network error or 5xx: requeue with exponential backoff so rows on screen still get filled in
+            long backoff = Math.min(RETRY_MAX_MS, RETRY_BASE_MS << (failureCount - 1));
+            retryNotBefore = System.currentTimeMillis() + backoff;
+            pending.addAll(batch);
+        } else {
+            // Give up on this batch; the codes are requested again when their rows are rebound
+            failureCount = 0;
+            retryNotBefore = 0;
+        }
+        flush();
+    }
+
+    // Runs on the worker thread. Requested codes missing from the response are cached as not found.
+    private void store(List<MattressDetail> details, List<String> requested) {
+        long now = System.currentTimeMillis();
+        Map<String, MattressDetail> loaded = new HashMap<>();
+        Set<String> returned = new HashSet<>();
+        for (MattressDetail detail : details) {
+            memoryCache.put(detail.getCode(), new CacheEntry(detail, now));
+            writeToDisk(detail);
+            returned.add(detail.getCode());
+            if (!detail.isEmpty()) loaded.put(detail.getCode(), detail);
+        }
+        for (String code : requested) {
+            if (returned.contains(code)) continue;
+            MattressDetail missing = MattressDetail.notFound(code);
+            memoryCache.put(code, new CacheEntry(missing, now));
+            writeToDisk(missing);
+        }
+        deliver(loaded);
+    }
+
+    private static long ttl(MattressDetail detail) {
+        return detail.isEmpty() ? NOT_FOUND_TTL_MS : DETAIL_TTL_MS;
+    }
+
+    private void deliver(Map<String, MattressDetail> details) {
+        if (details.isEmpty()) return;
+        mainHandler.post(() -> {
+            OnDetailsLoadedListener l = listener;
+            if (l != null) l.onDetailsLoaded(details);
+        });
+    }
+
+    // Expects a JSON array of detail objects; returns null on a non-2xx status or bad body
+    @Nullable
+    private static List<MattressDetail> parseResponse(Response response) {
+        try (ResponseBody body = response.body()) {
+            if (!response.isSuccessful()) return null;
+            JSONArray array = new JSONArray(body.string());
+
+            List<MattressDetail> details = new ArrayList<>();
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject item = array.optJSONObject(i);
+                MattressDetail detail = item != null ? MattressDetail.fromJson(item) : null;
+                if (detail != null) details.add(detail);
+            }
+            return details;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private File diskFile(String code) {
+        return new File(diskDir, code.replaceAll("[^A-Za-z0-9_-]", "_") + ".json");
+    }
+
+    // Returns the detail stamped with the file's modification time, or null if missing or expired
+    @Nullable
+    private CacheEntry readFromDisk(String code) {
+        File file = diskFile(code);
+        if (!file.exists()) return null;
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] bytes = new byte[(int) file.length()];
+            int read = 0;
+            while (read < bytes.length) {
+                int n = in.read(bytes, read, bytes.length - read);
+                if (n < 0) break;
+                read += n;
+            }
+            MattressDetail detail = MattressDetail.fromJson(
+                    new JSONObject(new String(bytes, 0, read, StandardCharsets.UTF_8)));
+            // Sanitized file names can collide, so confirm the stored code
+            if (detail == null || !detail.getCode().equals(code)) return null;
+            long cachedAt = file.lastModified();
+            if (System.currentTimeMillis() - cachedAt > ttl(detail)) {
+                file.delete();
+                return null;
+            }
+            return new CacheEntry(detail, cachedAt);
+        } catch (Exception e) {
+            file.delete();
+            return null;
+        }
+    }
+
+    private void writeToDisk(MattressDetail detail) {
+        if (!diskDir.exists() && !diskDir.mkdirs()) return;
+        File file = diskFile(detail.getCode());
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(detail.toJson().toString().getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            e.printStackTrace();
+            file.delete();
+        }
+    }
+
+    private void pruneDiskCache() {
+        File[] files = diskDir.listFiles();
+        if (files == null) return;
+        long now = System.currentTimeMillis();
+        for (File file : files) {
+            if (now - file.lastModified() > DETAIL_TTL_MS) file.delete();
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.example.fabricatorscanner.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.JsonWriter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On-device history of submitted scans.
+ *
+ * Each session is filed under the date its shift started, so a night shift that
+ * runs past midnight stays together. Reads are paged with a (submitted_at, id)
+ * keyset so page cost stays flat however much history the handset holds, and
+ * exports stream straight from the cursor to a file.
+ * All database work runs on a single background thread; callbacks run on the main thread.
+ */
+public class ScanHistoryStore extends SQLiteOpenHelper {
+
+    public interface ResultCallback<T> {
+        void onResult(@Nullable T result);
+    }
+
+    public interface PageCallback {
+        void onPage(List<ScanSession> sessions);
+    }
+
+    public interface ExportCallback {
+        void onExported(File file, int sessionCount);
+
+        void onExportFailed(Exception e);
+    }
+
+    public enum ExportFormat { CSV, JSON }
+
+    /**
+     * Which sessions to read or export. Null shift / fabricator are not filtered on.
+     */
+    public static class Filter {
+        final String shiftDate;
+        final String shift;
+        final String fabricator;
+
+        public Filter(String shiftDate, @Nullable String shift, @Nullable String fabricator) {
+            this.shiftDate = shiftDate;
+            this.shift = shift;
+            this.fabricator = fabricator;
+        }
+    }
+
+    private static final String DB_NAME = "scan_history.db";
+    private static final int DB_VERSION = 1;
+
+    private static final String TABLE = "sessions";
+    private static final String COL_ID = "id";
+    private static final String COL_FABRICATOR = "fabricator";
+    private static final String COL_SHIFT = "shift";
+    private static final String COL_SHIFT_DATE = "shift_date";
+    private static final String COL_SUBMITTED_AT = "submitted_at";
+
+    private static final String MATTRESS_TABLE = "session_mattresses";
+    private static final String COL_SESSION_ID = "session_id";
+    private static final String COL_POSITION = "position";
+    private static final String COL_MATTRESS = "mattress";
+
+    // The app has no shift timetable; it only knows D or N. A night shift starts in the
+    // evening and ends in the morning, so an N save before noon is filed under the
+    // previous day. Noon falls between the end of one night shift and the start of the next.
+    private static final int NIGHT_SHIFT_CUTOFF_HOUR = 12;
+
+    private static final String[] COLUMNS = {
+            COL_ID, COL_FABRICATOR, COL_SHIFT, COL_SHIFT_DATE, COL_SUBMITTED_AT
+    };
+    private static final String ORDER = COL_SUBMITTED_AT + " DESC, " + COL_ID + " DESC";
+
+    private static ScanHistoryStore instance;
+
+    private final Context appContext;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Bumped after every recorded session so the history screen knows when it is stale
+    private final AtomicInteger recordedCount = new AtomicInteger();
+
+    public static synchronized ScanHistoryStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new ScanHistoryStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private ScanHistoryStore(Context context) {
+        super(context, DB_NAME, null, DB_VERSION);
+        appContext = context;
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        db.setForeignKeyConstraintsEnabled(true);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE + " ("
+                + COL_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + COL_FABRICATOR + " TEXT NOT NULL, "
+                + COL_SHIFT + " TEXT NOT NULL, "
+                + COL_SHIFT_DATE + " TEXT NOT NULL, "
+                + COL_SUBMITTED_AT + " INTEGER NOT NULL)");
+        db.execSQL("CREATE TABLE " + MATTRESS_TABLE + " ("
+                + COL_SESSION_ID + " INTEGER NOT NULL REFERENCES " + TABLE + "(" + COL_ID + ") ON DELETE CASCADE, "
+                + COL_POSITION + " INTEGER NOT NULL, "
+                + COL_MATTRESS + " TEXT NOT NULL, "
+                + "PRIMARY KEY (" + COL_SESSION_ID + ", " + COL_POSITION + "))");
+        // Every index ends in (submitted_at, id) so keyset paging stays an index range scan
+        db.execSQL("CREATE INDEX idx_sessions_date ON " + TABLE + " ("
+                + COL_SHIFT_DATE + ", " + COL_SUBMITTED_AT + ", " + COL_ID + ")");
+        db.execSQL("CREATE INDEX idx_sessions_shift_date ON " + TABLE + " ("
+                + COL_SHIFT_DATE + ", " + COL_SHIFT + ", " + COL_SUBMITTED_AT + ", " + COL_ID + ")");
+        db.execSQL("CREATE INDEX idx_sessions_fabricator_date ON " + TABLE + " ("
+                + COL_FABRICATOR + ", " + COL_SHIFT_DATE + ", " + COL_SUBMITTED_AT + ", " + COL_ID + ")");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Only one schema version so far
+    }
+
+    /**
+     * The date ("yyyy-MM-dd") of the shift a save belongs to. Night-shift saves in
+     * the morning are filed under the previous day, when that shift started.
+     */
+    public static String shiftDateFor(String shift, long submittedAt) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(submittedAt);
+        if ("N".equals(shift) && cal.get(Calendar.HOUR_OF_DAY) < NIGHT_SHIFT_CUTOFF_HOUR) {
+            cal.add(Calendar.DAY_OF_MONTH, -1);
+        }
+        return new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(cal.getTime());
+    }
+
+    /**
+     * Records a session the server accepted. Runs in the background.
+     */
+    public void record(String fabricator, String shift, long submittedAt, List<String> mattresses) {
+        final List<String> codes = new ArrayList<>(mattresses);
+        worker.execute(() -> {
+            SQLiteDatabase db;
+            try {
+                db = getWritableDatabase();
+            } catch (Exception e) {
+                e.printStackTrace();
+                return;
+            }
+
+            db.beginTransaction();
+            try {
+                ContentValues values = new ContentValues();
+                values.put(COL_FABRICATOR, fabricator);
+                values.put(COL_SHIFT, shift);
+                values.put(COL_SHIFT_DATE, shiftDateFor(shift, submittedAt));
+                values.put(COL_SUBMITTED_AT, submittedAt);
+                long id = db.insertOrThrow(TABLE, null, values);
+                insertMattresses(db, id, codes);
+                db.setTransactionSuccessful();
+                recordedCount.incrementAndGet();
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                db.endTransaction();
+            }
+        });
+    }
+
+    /**
+     * Changes whenever a session is recorded; compare against a saved value to detect new data.
+     */
+    public int getRecordedCount() {
+        return recordedCount.get();
+    }
+
+    /**
+     * Finds the shift date of the newest session, or null when there is no history.
+     */
+    public void loadLatestShiftDate(ResultCallback<String> callback) {
+        worker.execute(() -> {
+            String latest = null;
+            try (Cursor cursor = getReadableDatabase().rawQuery(
+                    "SELECT MAX(" + COL_SHIFT_DATE + ") FROM " + TABLE, null)) {
+                if (cursor.moveToFirst() && !cursor.isNull(0)) latest = cursor.getString(0);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            final String result = latest;
+            mainHandler.post(() -> callback.onResult(result));
+        });
+    }
+
+    private static void insertMattresses(SQLiteDatabase db, long sessionId, List<String> mattresses) {
+        for (int i = 0; i < mattresses.size(); i++) {
+            ContentValues values = new ContentValues();
+            values.put(COL_SESSION_ID, sessionId);
+            values.put(COL_POSITION, i);
+            values.put(COL_MATTRESS, mattresses.get(i));
+            db.insertOrThrow(MATTRESS_TABLE, null, values);
+        }
+    }
+
+    /**
+     * Loads the page after {@code after}, or the first page when {@code after} is null.
+     */
+    public void loadPage(Filter filter, @Nullable ScanSession after, int pageSize, PageCallback callback) {
+        worker.execute(() -> {
+            List<String> args = new ArrayList<>();
+            StringBuilder where = buildWhere(filter, "", args);
+            if (after != null) {
+                // Row-value form lets SQLite use it as the upper bound of the index range
+                where.append(" AND (").append(COL_SUBMITTED_AT).append(", ").append(COL_ID).append(") < (?, ?)");
+                args.add(String.valueOf(after.getSubmittedAt()));
+                args.add(String.valueOf(after.getId()));
+            }
+
+            List<ScanSession> page = new ArrayList<>();
+            try {
+                SQLiteDatabase db = getReadableDatabase();
+                Map<Long, List<String>> mattressesById = new HashMap<>();
+                try (Cursor cursor = db.query(TABLE, COLUMNS, where.toString(),
+                        args.toArray(new String[0]), null, null, ORDER, String.valueOf(pageSize))) {
+                    while (cursor.moveToNext()) {
+                        List<String> mattresses = new ArrayList<>();
+                        mattressesById.put(cursor.getLong(0), mattresses);
+                        page.add(readSession(cursor, mattresses));
+                    }
+                }
+                loadMattresses(db, mattressesById);
+            } catch (Exception e) {
+                e.printStackTrace();
+                page.clear();
+            }
+            mainHandler.post(() -> callback.onPage(page));
+        });
+    }
+
+    // Fills the given lists with one query for the whole page
+    private static void loadMattresses(SQLiteDatabase db, Map<Long, List<String>> mattressesById) {
+        if (mattressesById.isEmpty()) return;
+        StringBuilder placeholders = new StringBuilder();
+        List<String> args = new ArrayList<>();
+        for (Long id : mattressesById.keySet()) {
+            if (placeholders.length() > 0) placeholders.append(", ");
+            placeholders.append('?');
+            args.add(String.valueOf(id));
+        }
+        try (Cursor cursor = db.query(MATTRESS_TABLE, new String[]{COL_SESSION_ID, COL_MATTRESS},
+                COL_SESSION_ID + " IN (" + placeholders + ")", args.toArray(new String[0]),
+                null, null, COL_SESSION_ID + ", " + COL_POSITION)) {
+            while (cursor.moveToNext()) {
+                List<String> mattresses = mattressesById.get(cursor.getLong(0));
+                if (mattresses != null) mattresses.add(cursor.getString(1));
+            }
+        }
+    }
+
+    /**
+     * Writes every session matching {@code filter} to a file under the app's
+     * external "exports" directory, one cursor row at a time.
+     */
+    public void export(Filter filter, ExportFormat format, String fileName, ExportCallback callback) {
+        worker.execute(() -> {
+            File dir = appContext.getExternalFilesDir("exports");
+            if (dir == null) dir = new File(appContext.getFilesDir(), "exports");
+            File file = new File(dir, fileName);
+
+            List<String> args = new ArrayList<>();
+            String sql = "SELECT s." + COL_ID + ", s." + COL_FABRICATOR + ", s." + COL_SHIFT
+                    + ", s." + COL_SHIFT_DATE + ", s." + COL_SUBMITTED_AT + ", m." + COL_MATTRESS
+                    + " FROM " + TABLE + " s LEFT JOIN " + MATTRESS_TABLE + " m ON m." + COL_SESSION_ID + " = s." + COL_ID
+                    + " WHERE " + buildWhere(filter, "s.", args)
+                    + " ORDER BY s." + COL_SUBMITTED_AT + " DESC, s." + COL_ID + " DESC, m." + COL_POSITION;
+
+            int count = 0;
+            try {
+                if (!dir.exists() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+                try (Cursor cursor = getReadableDatabase().rawQuery(sql, args.toArray(new String[0]));
+                     Writer writer = new BufferedWriter(new OutputStreamWriter(
+                             new FileOutputStream(file), StandardCharsets.UTF_8))) {
+                    count = format == ExportFormat.CSV
+                            ? writeCsv(cursor, writer)
+                            : writeJson(cursor, writer);
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                file.delete();
+                mainHandler.post(() -> callback.onExportFailed(e));
+                return;
+            }
+
+            final int exported = count;
+            final File result = file;
+            mainHandler.post(() -> callback.onExported(result, exported));
+        });
+    }
+
+    // One line per mattress so the file opens cleanly in a spreadsheet
+    private static int writeCsv(Cursor cursor, Writer writer) throws IOException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
+        writer.write("session_id,timestamp,shift_date,shift,fabricator,mattress\n");
+        int count = 0;
+        long currentId = -1;
+        while (cursor.moveToNext()) {
+            long id = cursor.getLong(0);
+            if (id != currentId) {
+                currentId = id;
+                count++;
+            }
+            writer.write(id + ","
+                    + csv(format.format(new Date(cursor.getLong(4)))) + ","
+                    + csv(cursor.getString(3)) + ","
+                    + csv(cursor.getString(2)) + ","
+                    + csv(cursor.getString(1)) + ","
+                    + csv(cursor.isNull(5) ? "" : cursor.getString(5)));
+            writer.write('\n');
+        }
+        return count;
+    }
+
+    // Join rows arrive grouped by session, so each object is closed when the id changes
+    private static int writeJson(Cursor cursor, Writer writer) throws IOException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
+        JsonWriter json = new JsonWriter(writer);
+        json.beginArray();
+        int count = 0;
+        long currentId = -1;
+        while (cursor.moveToNext()) {
+            long id = cursor.getLong(0);
+            if (id != currentId) {
+                if (currentId != -1) {
+                    json.endArray();
+                    json.endObject();
+                }
+                currentId = id;
+                count++;
+                json.beginObject();
+                json.name("id").value(id);
+                json.name("fabricator").value(cursor.getString(1));
+                json.name("shift").value(cursor.getString(2));
+                json.name("shiftDate").value(cursor.getString(3));
+                json.name("timestamp").value(format.format(new Date(cursor.getLong(4))));
+                json.name("mattresses").beginArray();
+            }
+            if (!cursor.isNull(5)) json.value(cursor.getString(5));
+        }
+        if (currentId != -1) {
+            json.endArray();
+            json.endObject();
+        }
+        json.endArray();
+        json.flush();
+        return count;
+    }
+
+    // Package-private for tests
+    static String csv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    @NonNull
+    private static StringBuilder buildWhere(Filter filter, String prefix, List<String> args) {
+        StringBuilder where = new StringBuilder(prefix + COL_SHIFT_DATE + " = ?");
+        args.add(filter.shiftDate);
+        if (filter.shift != null) {
+            where.append(" AND ").append(prefix).append(COL_SHIFT).append(" = ?");
+            args.add(filter.shift);
+        }
+        if (filter.fabricator != null) {
+            where.append(" AND ").append(prefix).append(COL_FABRICATOR).append(" = ?");
+            args.add(filter.fabricator);
+        }
+        return where;
+    }
+
+    private static ScanSession readSession(Cursor cursor, List<String> mattresses) {
+        return new ScanSession(
+                cursor.getLong(0),
+                cursor.getString(1),
+                cursor.getString(2),
+                cursor.getString(3),
+                cursor.getLong(4),
+                mattresses
+        );
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.fabricatorscanner.data;
+
+import java.util.List;
+
+/**
+ * A fabricator scan that was accepted by the server.
+ */
+public class ScanSession {
+
+    private final long id;
+    private final String fabricator;
+    private final String shift;
+    private final String shiftDate;
+    private final long submittedAt;
+    private final List<String> mattresses;
+
+    public ScanSession(long id, String fabricator, String shift, String shiftDate, long submittedAt,
+                       List<String> mattresses) {
+        this.id = id;
+        this.fabricator = fabricator;
+        this.shift = shift;
+        this.shiftDate = shiftDate;
+        this.submittedAt = submittedAt;
+        this.mattresses = mattresses;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getFabricator() {
+        return fabricator;
+    }
+
+    public String getShift() {
+        return shift;
+    }
+
+    // Date the shift started, "yyyy-MM-dd"
+    public String getShiftDate() {
+        return shiftDate;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public List<String> getMattresses() {
+        return mattresses;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.fabricatorscanner.ui;
+
+import android.view.View;
+
+import com.google.android.material.snackbar.Snackbar;
+
+/**
+ * Green / red status snackbar shared by every screen.
+ */
+public final class SweetSnack {
+
+    private SweetSnack() {
+    }
+
+    public static void show(View root, String message, boolean success) {
+        Snackbar sb = Snackbar.make(root, message, Snackbar.LENGTH_INDEFINITE);
+        sb.setDuration(2000);
+        int bg = success ? 0xFF2E7D32 : 0xFFC62828;
+        int fg = 0xFFFFFFFF;
+        sb.setBackgroundTint(bg);
+        sb.setTextColor(fg);
+        sb.setActionTextColor(fg);
+        if (!success) sb.setAction("DISMISS", v -> sb.dismiss());
+        sb.show();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.fabricatorscanner.ui.history;
+
+import android.annotation.SuppressLint;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.fabricatorscanner.R;
+import com.example.fabricatorscanner.data.ScanSession;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+public class HistoryAdapter extends RecyclerView.Adapter<HistoryAdapter.ViewHolder> {
+
+    private final List<ScanSession> sessions = new ArrayList<>();
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss", Locale.getDefault());
+
+    // Pages only ever append, so insert the new tail instead of rebinding everything
+    @SuppressLint("NotifyDataSetChanged")
+    public void setSessions(List<ScanSession> updated) {
+        int oldSize = sessions.size();
+        boolean appended = updated.size() >= oldSize
+                && (oldSize == 0 || updated.get(oldSize - 1).getId() == sessions.get(oldSize - 1).getId());
+
+        sessions.clear();
+        sessions.addAll(updated);
+        if (appended) {
+            notifyItemRangeInserted(oldSize, updated.size() - oldSize);
+        } else {
+            notifyDataSetChanged();
+        }
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_history, parent, false);
+        return new ViewHolder(view);
+    }
+
+    @SuppressLint("SetTextI18n")
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        ScanSession session = sessions.get(position);
+        holder.textFabricator.setText(session.getFabricator() + "  (" + session.getShift() + ")");
+        holder.textTime.setText(timeFormat.format(new Date(session.getSubmittedAt())));
+        holder.textMattresses.setText(session.getMattresses().size() + " mattresses: "
+                + String.join(", ", session.getMattresses()));
+    }
+
+    @Override
+    public int getItemCount() {
+        return sessions.size();
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        TextView textFabricator;
+        TextView textTime;
+        TextView textMattresses;
+        ViewHolder(View itemView) {
+            super(itemView);
+            textFabricator = itemView.findViewById(R.id.text_history_fabricator);
+            textTime = itemView.findViewById(R.id.text_history_time);
+            textMattresses = itemView.findViewById(R.id.text_history_mattresses);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.fabricatorscanner.ui.history;
+
+import android.app.DatePickerDialog;
+import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.inputmethod.EditorInfo;
+import android.widget.ArrayAdapter;
+
+import androidx.annotation.NonNull;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.fabricatorscanner.R;
+import com.example.fabricatorscanner.data.ScanHistoryStore;
+import com.example.fabricatorscanner.databinding.FragmentHistoryBinding;
+import com.example.fabricatorscanner.ui.SweetSnack;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+
+public class HistoryFragment extends Fragment {
+
+    private static final String SHIFT_ALL = "All";
+    // Start loading the next page this many rows before the end
+    private static final int PREFETCH_DISTANCE = 10;
+
+    private FragmentHistoryBinding binding;
+    private HistoryViewModel viewModel;
+    private ScanHistoryStore store;
+    private HistoryAdapter adapter;
+
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater,
+                             ViewGroup container, Bundle savedInstanceState) {
+        viewModel = new ViewModelProvider(this).get(HistoryViewModel.class);
+        store = ScanHistoryStore.getInstance(requireContext());
+        binding = FragmentHistoryBinding.inflate(inflater, container, false);
+        View root = binding.getRoot();
+
+        // Setup Shift filter dropdown
+        ArrayAdapter<String> shiftAdapter = new ArrayAdapter<>(
+                requireContext(),
+                android.R.layout.simple_dropdown_item_1line,
+                new String[]{SHIFT_ALL, "D", "N"}
+        );
+        binding.dropdownHistoryShift.setText(
+                viewModel.getShift() != null ? viewModel.getShift() : SHIFT_ALL, false);
+        binding.dropdownHistoryShift.setAdapter(shiftAdapter);
+        binding.dropdownHistoryShift.setKeyListener(null);
+        binding.dropdownHistoryShift.setOnClickListener(v -> binding.dropdownHistoryShift.showDropDown());
+        binding.dropdownHistoryShift.setOnItemClickListener((parent, view, position, id) -> {
+            String selected = shiftAdapter.getItem(position);
+            viewModel.setShift(SHIFT_ALL.equals(selected) ? null : selected);
+            viewModel.reload(store);
+        });
+
+        // Date filter
+        viewModel.getDayStart().observe(getViewLifecycleOwner(), this::updateDateButton);
+        binding.buttonHistoryDate.setOnClickListener(v -> showDatePicker());
+
+        // Fabricator filter, applied on search
+        binding.textHistoryFabricatorFilter.setText(viewModel.getFabricator());
+        binding.textHistoryFabricatorFilter.setOnEditorActionListener((v, actionId, event) -> {
+            if (actionId == EditorInfo.IME_ACTION_SEARCH) {
+                String text = v.getText() != null ? v.getText().toString().trim() : "";
+                viewModel.setFabricator(text);
+                viewModel.reload(store);
+                return true;
+            }
+            return false;
+        });
+        // The clear icon empties the field without a search action, so drop the filter here too
+        binding.textHistoryFabricatorFilter.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                if (s.toString().trim().isEmpty() && viewModel.getFabricator() != null) {
+                    viewModel.setFabricator(null);
+                    viewModel.reload(store);
+                }
+            }
+        });
+
+        // Export buttons
+        binding.buttonExportCsv.setOnClickListener(v -> export(ScanHistoryStore.ExportFormat.CSV));
+        binding.buttonExportJson.setOnClickListener(v -> export(ScanHistoryStore.ExportFormat.JSON));
+
+        // Setup paged RecyclerView
+        adapter = new HistoryAdapter();
+        LinearLayoutManager layoutManager = new LinearLayoutManager(requireContext());
+        binding.recyclerHistory.setLayoutManager(layoutManager);
+        binding.recyclerHistory.setAdapter(adapter);
+        binding.recyclerHistory.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0) return;
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (lastVisible >= adapter.getItemCount() - PREFETCH_DISTANCE) {
+                    viewModel.loadNextPage(store);
+                }
+            }
+        });
+
+        viewModel.getSessions().observe(getViewLifecycleOwner(), adapter::setSessions);
+        viewModel.isEmpty().observe(getViewLifecycleOwner(), isEmpty ->
+                binding.textHistoryEmpty.setVisibility(isEmpty ? View.VISIBLE : View.GONE));
+
+        return root;
+    }
+
+    @Override
+    public void onResume() {
+        super.onResume();
+        // Keep loaded pages unless a session was saved since the last load
+        viewModel.refreshIfStale(store);
+    }
+
+    private void showDatePicker() {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(viewModel.currentDayStart());
+        new DatePickerDialog(requireContext(), (picker, year, month, day) -> {
+            Calendar selected = Calendar.getInstance();
+            selected.set(year, month, day);
+            viewModel.setDay(selected.getTimeInMillis());
+            viewModel.reload(store);
+        }, cal.get(Calendar.YEAR), cal.get(Calendar.MONTH), cal.get(Calendar.DAY_OF_MONTH)).show();
+    }
+
+    private void updateDateButton(long dayStart) {
+        if (binding != null) {
+            binding.buttonHistoryDate.setText(
+                    new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(new Date(dayStart)));
+        }
+    }
+
+    private void export(ScanHistoryStore.ExportFormat format) {
+        setExportEnabled(false);
+
+        String day = new SimpleDateFormat("yyyyMMdd", Locale.US).format(new Date(viewModel.currentDayStart()));
+        String shift = viewModel.getShift() != null ? viewModel.getShift() : "DN";
+        String extension = format == ScanHistoryStore.ExportFormat.CSV ? "csv" : "json";
+        String fileName = "scans_" + day + "_" + shift + "_" + System.currentTimeMillis() + "." + extension;
+
+        store.export(viewModel.currentFilter(), format, fileName, new ScanHistoryStore.ExportCallback() {
+            @Override
+            public void onExported(File file, int sessionCount) {
+                setExportEnabled(true);
+                showSweetSnack("Exported " + sessionCount + " sessions to " + file.getAbsolutePath(), true);
+            }
+
+            @Override
+            public void onExportFailed(Exception e) {
+                setExportEnabled(true);
+                showSweetSnack("Export failed: " + e.getMessage(), false);
+            }
+        });
+    }
+
+    private void setExportEnabled(boolean enabled) {
+        if (binding != null) {
+            binding.buttonExportCsv.setEnabled(enabled);
+            binding.buttonExportJson.setEnabled(enabled);
+        }
+    }
+
+    private void showSweetSnack(String message, boolean success) {
+        if (binding != null) SweetSnack.show(binding.getRoot(), message, success);
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        binding = null;
+    }
+}
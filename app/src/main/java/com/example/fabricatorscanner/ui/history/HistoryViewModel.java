@@ -0,0 +1,147 @@
+package com.example.fabricatorscanner.ui.history;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+
+import com.example.fabricatorscanner.data.ScanHistoryStore;
+import com.example.fabricatorscanner.data.ScanSession;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+public class HistoryViewModel extends ViewModel {
+
+    private static final int PAGE_SIZE = 50;
+    private static final String DATE_FORMAT = "yyyy-MM-dd";
+
+    private final MutableLiveData<List<ScanSession>> sessions = new MutableLiveData<>(new ArrayList<>());
+    // True only once a load has come back with nothing, so the empty text never flashes while loading
+    private final MutableLiveData<Boolean> empty = new MutableLiveData<>(false);
+    // Shift date being shown, in millis at the start of that day
+    private final MutableLiveData<Long> dayStart = new MutableLiveData<>(startOfDay(System.currentTimeMillis()));
+    private final List<ScanSession> loaded = new ArrayList<>();
+
+    private String shift;       // null = both shifts
+    private String fabricator;  // null = all fabricators
+
+    private boolean started = false;
+    private boolean loading = false;
+    private boolean endReached = false;
+    // Bumped on every filter change so stale pages are dropped
+    private int generation = 0;
+    // Store's recorded count when the list was last reloaded
+    private int loadedRecordCount = -1;
+
+    public LiveData<List<ScanSession>> getSessions() {
+        return sessions;
+    }
+
+    public LiveData<Boolean> isEmpty() {
+        return empty;
+    }
+
+    public LiveData<Long> getDayStart() {
+        return dayStart;
+    }
+
+    public String getShift() {
+        return shift;
+    }
+
+    public String getFabricator() {
+        return fabricator;
+    }
+
+    public void setShift(String shift) {
+        this.shift = shift;
+    }
+
+    public void setFabricator(String fabricator) {
+        this.fabricator = fabricator == null || fabricator.isEmpty() ? null : fabricator;
+    }
+
+    public void setDay(long millis) {
+        dayStart.setValue(startOfDay(millis));
+    }
+
+    // Sessions are matched on the day their shift started, so night shifts stay whole
+    public ScanHistoryStore.Filter currentFilter() {
+        String shiftDate = new SimpleDateFormat(DATE_FORMAT, Locale.US).format(new Date(currentDayStart()));
+        return new ScanHistoryStore.Filter(shiftDate, shift, fabricator);
+    }
+
+    public long currentDayStart() {
+        Long value = dayStart.getValue();
+        return value != null ? value : startOfDay(System.currentTimeMillis());
+    }
+
+    /**
+     * Loads the list the first time, and afterwards only when a session has been
+     * recorded since the last load, so pages and scroll position survive tab switches.
+     */
+    public void refreshIfStale(ScanHistoryStore store) {
+        if (!started) {
+            started = true;
+            // Open on the newest shift with data; a night shift after midnight is filed under yesterday
+            store.loadLatestShiftDate(latest -> {
+                if (latest != null) {
+                    try {
+                        Date date = new SimpleDateFormat(DATE_FORMAT, Locale.US).parse(latest);
+                        if (date != null) setDay(date.getTime());
+                    } catch (ParseException e) {
+                        e.printStackTrace();
+                    }
+                }
+                reload(store);
+            });
+        } else if (loadedRecordCount != store.getRecordedCount()) {
+            reload(store);
+        }
+    }
+
+    /**
+     * Drops loaded pages and starts again from the newest session.
+     */
+    public void reload(ScanHistoryStore store) {
+        generation++;
+        loading = false;
+        endReached = false;
+        loadedRecordCount = store.getRecordedCount();
+        loaded.clear();
+        empty.setValue(false);
+        sessions.setValue(new ArrayList<>());
+        loadNextPage(store);
+    }
+
+    public void loadNextPage(ScanHistoryStore store) {
+        if (loading || endReached) return;
+        loading = true;
+
+        final int requestGeneration = generation;
+        ScanSession last = loaded.isEmpty() ? null : loaded.get(loaded.size() - 1);
+        store.loadPage(currentFilter(), last, PAGE_SIZE, page -> {
+            if (requestGeneration != generation) return;
+            loading = false;
+            if (page.size() < PAGE_SIZE) endReached = true;
+            loaded.addAll(page);
+            sessions.setValue(new ArrayList<>(loaded));
+            empty.setValue(loaded.isEmpty());
+        });
+    }
+
+    private static long startOfDay(long millis) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(millis);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        return cal.getTimeInMillis();
+    }
+}
@@ -25,8 +25,11 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.fabricatorscanner.R;
+import com.example.fabricatorscanner.data.Api;
+import com.example.fabricatorscanner.data.MattressDetailRepository;
+import com.example.fabricatorscanner.data.ScanHistoryStore;
 import com.example.fabricatorscanner.databinding.FragmentHomeBinding;
-import com.google.android.material.snackbar.Snackbar;
+import com.example.fabricatorscanner.ui.SweetSnack;
 
 import org.json.JSONObject;
 
@@ -56,11 +59,13 @@ public class HomeFragment extends Fragment {
 
     private List<String> mattressList;
     private MattressAdapter mattressAdapter;
+    private MattressDetailRepository detailRepository;
+    private ScanHistoryStore historyStore;
 
     private static final String ACTION_DECODE = ScanManager.ACTION_DECODE;
     private static final String BARCODE_STRING_TAG = ScanManager.BARCODE_STRING_TAG;
 
-    private final OkHttpClient client = new OkHttpClient();
+    private final OkHttpClient client = Api.client();
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     @Override
@@ -127,9 +132,12 @@ public class HomeFragment extends Fragment {
 
         // Setup RecyclerView for mattresses
         mattressList = new ArrayList<>();
+        detailRepository = MattressDetailRepository.getInstance(requireContext());
+        historyStore = ScanHistoryStore.getInstance(requireContext());
         mattressAdapter = new MattressAdapter(mattressList, count -> {
             binding.textMattressCount.setText("Mattresses: " + count);
-        });
+        }, detailRepository);
+        detailRepository.setListener(mattressAdapter::onDetailsLoaded);
         binding.recyclerMattresses.setLayoutManager(new LinearLayoutManager(requireContext()));
         binding.recyclerMattresses.setAdapter(mattressAdapter);
 
@@ -192,6 +200,7 @@ public class HomeFragment extends Fragment {
 
         if (scanResult.startsWith("FC")) {
             binding.textFabricator.setText(scanResult);
+            detailRepository.prefetchForFabricator(scanResult);
         } else if (scanResult.startsWith("HORO") ||
                 scanResult.startsWith("HOR") ||
                 scanResult.startsWith("VERO") ||
@@ -243,7 +252,8 @@ public class HomeFragment extends Fragment {
         binding.buttonSave.setText(R.string.saving);
         setClearIconsEnabled(false);
 
-        String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault()).format(new Date());
+        final long submittedAt = System.currentTimeMillis();
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault()).format(new Date(submittedAt));
 
         try {
             JSONObject json = new JSONObject();
@@ -251,15 +261,15 @@ public class HomeFragment extends Fragment {
             json.put("timestamp", timestamp);
             json.put("shift", shift);
 
-            // Add mattress array
-            org.json.JSONArray mattressArray = new org.json.JSONArray(mattressList);
+            // Add mattress array; the same snapshot goes to the local history
+            final List<String> sentMattresses = new ArrayList<>(mattressList);
+            org.json.JSONArray mattressArray = new org.json.JSONArray(sentMattresses);
             json.put("mattresses", mattressArray);
 
             MediaType JSON = MediaType.get("application/json; charset=utf-8");
             RequestBody body = RequestBody.create(json.toString(), JSON);
 
-            HttpUrl url = HttpUrl.parse("https://api.hexagonasia.com/newcommon/fabricator/scan");
-//            HttpUrl url = HttpUrl.parse("http://192.168.1.22:5000/newcommon/fabricator/scan");
+            HttpUrl url = HttpUrl.parse(Api.BASE_URL + "/scan");
             if (url == null) throw new IllegalArgumentException("Invalid URL");
 
             Request request = new Request.Builder().url(url).post(body).build();
@@ -284,6 +294,8 @@ public class HomeFragment extends Fragment {
                         setClearIconsEnabled(true);
 
                         if (code == 200 || code == 201) {
+                            // Keep a local copy for the shift history before clearing
+                            historyStore.record(fabricator, shift, submittedAt, sentMattresses);
                             if (binding != null) {
                                 binding.textFabricator.setText("");
                                 binding.textMattress.setText("");
@@ -326,16 +338,7 @@ public class HomeFragment extends Fragment {
     }
 
     private void showSweetSnack(String message, boolean success) {
-        if (binding == null) return;
-        Snackbar sb = Snackbar.make(binding.getRoot(), message, Snackbar.LENGTH_INDEFINITE);
-        sb.setDuration(2000);
-        int bg = success ? 0xFF2E7D32 : 0xFFC62828;
-        int fg = 0xFFFFFFFF;
-        sb.setBackgroundTint(bg);
-        sb.setTextColor(fg);
-        sb.setActionTextColor(fg);
-        if (!success) sb.setAction("DISMISS", v -> sb.dismiss());
-        sb.show();
+        if (binding != null) SweetSnack.show(binding.getRoot(), message, success);
     }
 
     @SuppressLint("ClickableViewAccessibility")
@@ -388,6 +391,9 @@ public class HomeFragment extends Fragment {
     public void onDestroyView() {
         super.onDestroyView();
         binding = null;
+        if (detailRepository != null) {
+            detailRepository.setListener(null);
+        }
         if (mScanManager != null) {
             try {
                 mScanManager.closeScanner();
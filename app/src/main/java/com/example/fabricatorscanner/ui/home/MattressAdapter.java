@@ -9,22 +9,37 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.fabricatorscanner.R;
+import com.example.fabricatorscanner.data.MattressDetail;
+import com.example.fabricatorscanner.data.MattressDetailRepository;
 
 import java.util.List;
+import java.util.Map;
 
 public class MattressAdapter extends RecyclerView.Adapter<MattressAdapter.ViewHolder> {
 
     private final List<String> mattressList;
     private final OnMattressChangeListener listener;
+    private final MattressDetailRepository detailRepository;
 
     // Callback interface
     public interface OnMattressChangeListener {
         void onMattressCountChanged(int count);
     }
 
-    public MattressAdapter(List<String> mattressList, OnMattressChangeListener listener) {
+    public MattressAdapter(List<String> mattressList, OnMattressChangeListener listener,
+                           MattressDetailRepository detailRepository) {
         this.mattressList = mattressList;
         this.listener = listener;
+        this.detailRepository = detailRepository;
+    }
+
+    // Refresh only the rows whose details just arrived
+    public void onDetailsLoaded(Map<String, MattressDetail> details) {
+        for (int i = 0; i < mattressList.size(); i++) {
+            if (details.containsKey(mattressList.get(i))) {
+                notifyItemChanged(i);
+            }
+        }
     }
 
     @NonNull
@@ -40,6 +55,18 @@ public class MattressAdapter extends RecyclerView.Adapter<MattressAdapter.ViewHo
         String code = mattressList.get(position);
         holder.textMattress.setText(code);
 
+        // Details are optional; a miss queues a lookup and the row is rebound later
+        MattressDetail detail = detailRepository != null ? detailRepository.peek(code) : null;
+        if (detail != null && !detail.getSummary().isEmpty()) {
+            holder.textDetail.setText(detail.getSummary());
+            holder.textDetail.setVisibility(View.VISIBLE);
+        } else {
+            holder.textDetail.setVisibility(View.GONE);
+            if (detail == null && detailRepository != null) {
+                detailRepository.request(code);
+            }
+        }
+
         // Delete button action
         holder.buttonDelete.setOnClickListener(v -> {
             int pos = holder.getAdapterPosition();
@@ -62,10 +89,12 @@ public class MattressAdapter extends RecyclerView.Adapter<MattressAdapter.ViewHo
 
     static class ViewHolder extends RecyclerView.ViewHolder {
         TextView textMattress;
+        TextView textDetail;
         Button buttonDelete;
         ViewHolder(View itemView) {
             super(itemView);
             textMattress = itemView.findViewById(R.id.text_mattress_item);
+            textDetail = itemView.findViewById(R.id.text_mattress_detail);
             buttonDelete = itemView.findViewById(R.id.button_delete);
         }
     }
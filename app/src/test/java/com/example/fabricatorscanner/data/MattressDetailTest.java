@@ -0,0 +1,86 @@
+package com.example.fabricatorscanner.data;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Parsing and display rules for {@link MattressDetail}.
+ */
+public class MattressDetailTest {
+
+    @Test
+    public void fromJson_readsAllFields() throws Exception {
+        JSONObject json = new JSONObject()
+                .put("mattress", " HORO123 ")
+                .put("size", "72x36")
+                .put("orderNo", "SO-42")
+                .put("description", "Spring");
+
+        MattressDetail detail = MattressDetail.fromJson(json);
+
+        assertNotNull(detail);
+        assertEquals("HORO123", detail.getCode());
+        assertEquals("72x36", detail.getSize());
+        assertEquals("SO-42", detail.getOrderNo());
+        assertEquals("Spring", detail.getDescription());
+    }
+
+    @Test
+    public void fromJson_missingCodeReturnsNull() throws Exception {
+        assertNull(MattressDetail.fromJson(new JSONObject().put("size", "72x36")));
+        assertNull(MattressDetail.fromJson(new JSONObject().put("code", "HORO123")));
+    }
+
+    @Test
+    public void fromJson_missingFieldsAreEmpty() throws Exception {
+        MattressDetail detail = MattressDetail.fromJson(new JSONObject().put("mattress", "VER1"));
+
+        assertNotNull(detail);
+        assertEquals("", detail.getSize());
+        assertTrue(detail.isEmpty());
+    }
+
+    @Test
+    public void toJson_roundTrips() throws Exception {
+        MattressDetail detail = new MattressDetail("LAMI9", "60x30", "SO-7", "Foam");
+
+        MattressDetail parsed = MattressDetail.fromJson(detail.toJson());
+
+        assertNotNull(parsed);
+        assertEquals("LAMI9", parsed.getCode());
+        assertEquals("Size: 60x30  •  Order: SO-7", parsed.getSummary());
+    }
+
+    @Test
+    public void getSummary_sizeAndOrder() {
+        assertEquals("Size: 72x36  •  Order: SO-42",
+                new MattressDetail("HORO1", "72x36", "SO-42", "Spring").getSummary());
+    }
+
+    @Test
+    public void getSummary_singleField() {
+        assertEquals("Size: 72x36", new MattressDetail("HORO1", "72x36", "", "").getSummary());
+        assertEquals("Order: SO-42", new MattressDetail("HORO1", "", "SO-42", "").getSummary());
+    }
+
+    @Test
+    public void getSummary_fallsBackToDescription() {
+        assertEquals("Spring", new MattressDetail("HORO1", "", "", "Spring").getSummary());
+    }
+
+    @Test
+    public void notFound_isEmptyWithBlankSummary() {
+        MattressDetail detail = MattressDetail.notFound("HORO1");
+
+        assertEquals("HORO1", detail.getCode());
+        assertTrue(detail.isEmpty());
+        assertEquals("", detail.getSummary());
+    }
+
+    @Test
+    public void isEmpty_falseWhenAnyFieldSet() {
+        assertFalse(new MattressDetail("HORO1", "", "", "Spring").isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.fabricatorscanner.data;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.*;
+
+/**
+ * Shift-date filing and CSV quoting in {@link ScanHistoryStore}.
+ */
+public class ScanHistoryStoreTest {
+
+    private static long at(int year, int month, int day, int hour, int minute) {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(year, month, day, hour, minute);
+        return cal.getTimeInMillis();
+    }
+
+    @Test
+    public void shiftDateFor_dayShiftUsesCalendarDay() {
+        assertEquals("2026-03-10", ScanHistoryStore.shiftDateFor("D", at(2026, Calendar.MARCH, 10, 7, 30)));
+        assertEquals("2026-03-10", ScanHistoryStore.shiftDateFor("D", at(2026, Calendar.MARCH, 10, 18, 0)));
+    }
+
+    @Test
+    public void shiftDateFor_nightShiftBeforeCutoffIsPreviousDay() {
+        assertEquals("2026-03-09", ScanHistoryStore.shiftDateFor("N", at(2026, Calendar.MARCH, 10, 0, 0)));
+        assertEquals("2026-03-09", ScanHistoryStore.shiftDateFor("N", at(2026, Calendar.MARCH, 10, 2, 15)));
+        assertEquals("2026-03-09", ScanHistoryStore.shiftDateFor("N", at(2026, Calendar.MARCH, 10, 11, 59)));
+    }
+
+    @Test
+    public void shiftDateFor_nightShiftFromCutoffIsSameDay() {
+        assertEquals("2026-03-10", ScanHistoryStore.shiftDateFor("N", at(2026, Calendar.MARCH, 10, 12, 0)));
+        assertEquals("2026-03-10", ScanHistoryStore.shiftDateFor("N", at(2026, Calendar.MARCH, 10, 23, 45)));
+    }
+
+    @Test
+    public void shiftDateFor_nightShiftCrossesMonthAndYear() {
+        assertEquals("2026-02-28", ScanHistoryStore.shiftDateFor("N", at(2026, Calendar.MARCH, 1, 3, 0)));
+        assertEquals("2024-02-29", ScanHistoryStore.shiftDateFor("N", at(2024, Calendar.MARCH, 1, 3, 0)));
+        assertEquals("2025-12-31", ScanHistoryStore.shiftDateFor("N", at(2026, Calendar.JANUARY, 1, 1, 0)));
+    }
+
+    @Test
+    public void shiftDateFor_dayShiftOnFirstOfMonthStaysPut() {
+        assertEquals("2026-01-01", ScanHistoryStore.shiftDateFor("D", at(2026, Calendar.JANUARY, 1, 1, 0)));
+    }
+
+    @Test
+    public void csv_plainValueUnchanged() {
+        assertEquals("HORO123", ScanHistoryStore.csv("HORO123"));
+        assertEquals("", ScanHistoryStore.csv(""));
+    }
+
+    @Test
+    public void csv_quotesCommasAndNewlines() {
+        assertEquals("\"HORO,1\"", ScanHistoryStore.csv("HORO,1"));
+        assertEquals("\"line1\nline2\"", ScanHistoryStore.csv("line1\nline2"));
+        assertEquals("\"line1\r\nline2\"", ScanHistoryStore.csv("line1\r\nline2"));
+    }
+
+    @Test
+    public void csv_doublesEmbeddedQuotes() {
+        assertEquals("\"say \"\"hi\"\"\"", ScanHistoryStore.csv("say \"hi\""));
+    }
+}